@@ -0,0 +1,70 @@
+/**
+ *    Copyright (c) 2016, SimilarWeb LTD.
+ *    All rights reserved.
+ *
+ *    Redistribution and use in source and binary forms, with or without
+ *    modification, are permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this
+ *       list of conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *
+ *    THIS SOFTWARE IS PROVIDED BY SimilarWeb ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ *    WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ *    MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ *    EVENT SHALL SimilarWeb OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ *    INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ *    LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ *    OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *    LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *    NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ *    EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ *    The views and conclusions contained in the software and documentation are
+ *    those of the authors and should not be interpreted as representing official
+ *    policies, either expressed or implied, of SimilarWeb.
+*/
+
+package com.similarweb.hbase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Allocates the merge slots of one normalization round across tables:
+ * the candidates of all tables are ranked together by {@link RegionPair#mergeBenefit()}
+ * and the best ones get the slots.
+ */
+class ClusterMergeBudget {
+
+    private static final Log LOG = LogFactory.getLog(ClusterMergeBudget.class);
+
+    private ClusterMergeBudget() {
+    }
+
+    /**
+     * @param candidates merge candidates per table, already within the limits of each table
+     * @param slots number of merges allowed in this round
+     * @return chosen merges per table, tables without merges are omitted
+     */
+    static <K, T> Map<K, List<RegionPair<T>>> allocate(Map<K, List<RegionPair<T>>> candidates, int slots) {
+        if (slots <= 0) {
+            return Collections.emptyMap();
+        }
+        Map<K, List<RegionPair<T>>> allocated = candidates.entrySet().stream()
+                .flatMap(e -> e.getValue().stream()
+                        .map(ri -> new AbstractMap.SimpleImmutableEntry<>(e.getKey(), ri)))
+                .sorted((e1, e2) -> Double.compare(e2.getValue().mergeBenefit(), e1.getValue().mergeBenefit()))
+                .limit(slots)
+                .collect(Collectors.groupingBy(Map.Entry::getKey,
+                        Collectors.mapping(Map.Entry::getValue, Collectors.toList())));
+        allocated.forEach((key, list) -> LOG.debug("Allocated " + list.size() + " merges to table " + key));
+        return allocated;
+    }
+}
@@ -0,0 +1,86 @@
+/**
+ *    Copyright (c) 2016, SimilarWeb LTD.
+ *    All rights reserved.
+ *
+ *    Redistribution and use in source and binary forms, with or without
+ *    modification, are permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this
+ *       list of conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *
+ *    THIS SOFTWARE IS PROVIDED BY SimilarWeb ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ *    WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ *    MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ *    EVENT SHALL SimilarWeb OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ *    INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ *    LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ *    OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *    LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *    NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ *    EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ *    The views and conclusions contained in the software and documentation are
+ *    those of the authors and should not be interpreted as representing official
+ *    policies, either expressed or implied, of SimilarWeb.
+*/
+
+package com.similarweb.hbase;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.apache.hadoop.hbase.HBaseIOException;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Plans of one cluster-wide normalization round, handed out table by table.
+ * A new round is planned when a table of the last round is asked for again,
+ * or when the last round is older than the maximum age. Tables which were not
+ * part of the last round get no plan, so that the round isn't planned twice.
+ */
+class ClusterPlanRound<K, V> {
+
+    private static final Log LOG = LogFactory.getLog(ClusterPlanRound.class);
+
+    interface Planner<K, V> {
+        Map<K, V> plan() throws HBaseIOException;
+    }
+
+    private final Planner<K, V> planner;
+    private final long maxAgeMillis;
+    private final LongSupplier clock;
+
+    private Set<K> planned = null;
+    private Map<K, V> pending = new HashMap<>();
+    private long plannedAt;
+
+    ClusterPlanRound(Planner<K, V> planner, long maxAgeMillis, LongSupplier clock) {
+        this.planner = planner;
+        this.maxAgeMillis = maxAgeMillis;
+        this.clock = clock;
+    }
+
+    /**
+     * @param key table asked for
+     * @return plan of the table in the current round, null if it has none
+     */
+    synchronized V take(K key) throws HBaseIOException {
+        long now = clock.getAsLong();
+        boolean taken = planned != null && planned.contains(key) && !pending.containsKey(key);
+        if (planned == null || taken || now - plannedAt > maxAgeMillis) {
+            LOG.debug("Starting new normalization round, " + pending.size() + " stale plans dropped");
+            pending = new HashMap<>(planner.plan());
+            planned = new HashSet<>(pending.keySet());
+            plannedAt = now;
+        }
+        if (!planned.contains(key)) {
+            LOG.debug("No plan for " + key + ", it isn't part of the current round");
+        }
+        return pending.remove(key);
+    }
+}
@@ -39,11 +39,30 @@ public class RegionMergeConfig {
     private int maxRegionSize = 3072;
     private int maxResults = 1;
     private long maxRequestCount = 0;
+    private int minRegionsPerServer = 0;
+    private int targetRegionCount = 0;
 
     public int getMinRegionsCount() {
         return minRegionsCount;
     }
 
+    public int getMinRegionsPerServer() {
+        return minRegionsPerServer;
+    }
+
+    public int getTargetRegionCount() {
+        return targetRegionCount;
+    }
+
+    /**
+     * Effective lower bound on the number of regions of a table: the absolute
+     * minimum, or the per-server minimum times the number of live servers, whichever is larger.
+     * @param liveServersCount number of live region servers, 0 if unknown
+     */
+    public int getMinRegionsCount(int liveServersCount) {
+        return Integer.max(minRegionsCount, minRegionsPerServer * liveServersCount);
+    }
+
     public int getMaxRegionSize() {
         return maxRegionSize;
     }
@@ -73,6 +92,14 @@ public class RegionMergeConfig {
             RegionMergeConfig.this.maxRequestCount = maxRequestCount;
             return this;
         }
+        public Builder withMinRegionsPerServer(int minRegionsPerServer) {
+            RegionMergeConfig.this.minRegionsPerServer = minRegionsPerServer;
+            return this;
+        }
+        public Builder withTargetRegionCount(int targetRegionCount) {
+            RegionMergeConfig.this.targetRegionCount = targetRegionCount;
+            return this;
+        }
         public RegionMergeConfig build() {
             return RegionMergeConfig.this;
         }
@@ -39,14 +39,30 @@ public class RegionPair<T> {
     public long requestCount;
     public int mergedSize;
     public T nextHandle;
+    public long nextRequestCount;
+    public String server;
+    public String nextServer;
 
     public RegionPair(T handle, int size, long requestCount) {
+        this(handle, size, requestCount, null);
+    }
+
+    public RegionPair(T handle, int size, long requestCount, String server) {
         this.handle = handle;
         this.size = size;
         this.requestCount = requestCount;
+        this.server = server;
         mergedSize = Integer.MAX_VALUE;
     }
 
+    /**
+     * Benefit of merging this pair: one region reclaimed per megabyte merged and per request served,
+     * so small and cold pairs come first.
+     */
+    public double mergeBenefit() {
+        return 1.0 / (mergedSize + 1) / (requestCount + nextRequestCount + 1);
+    }
+
     public String toString() {
         return "RegionPair[" + handle.toString() + "]";
     }
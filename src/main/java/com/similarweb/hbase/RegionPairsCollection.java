@@ -45,8 +45,15 @@ class RegionPairsCollection<T> {
     private static final Log LOG = LogFactory.getLog(RegionPairsCollection.class);
 
     public static <T> Collector<RegionPair<T>, RegionPairsCollection<T>, Stream<RegionPair<T>>> createCollector(RegionMergeConfig config) {
+        return createCollector(config, 0);
+    }
+
+    /**
+     * @param liveServersCount number of live region servers, used for the per-server minimum
+     */
+    public static <T> Collector<RegionPair<T>, RegionPairsCollection<T>, Stream<RegionPair<T>>> createCollector(RegionMergeConfig config, int liveServersCount) {
         return new CollectorImpl<>(
-                () -> new RegionPairsCollection<T>(config),
+                () -> new RegionPairsCollection<T>(config, liveServersCount),
                 RegionPairsCollection::add,
                 RegionPairsCollection::addAll,
                 RegionPairsCollection::result,
@@ -55,31 +62,37 @@ class RegionPairsCollection<T> {
     }
 
     RegionMergeConfig config;
+    int liveServersCount;
 
     boolean isEmpty = true;
     int processedCount = 0;
     SortedSet<RegionPair<T>> pairSortedSet
             = new TreeSet<>((ri1, ri2) -> Long.compare(ri1.mergedSize, ri2.mergedSize));
+    Map<String, Integer> serverRegionsCount = new HashMap<>();
 
     RegionPair<T> last = null;
     RegionPair<T> first = null;
 
-    RegionPairsCollection(RegionMergeConfig config) {
+    RegionPairsCollection(RegionMergeConfig config, int liveServersCount) {
         this.config = config;
+        this.liveServersCount = liveServersCount;
     }
 
-    RegionPairsCollection(RegionMergeConfig config, RegionPair<T> ri) {
-        this(config);
+    RegionPairsCollection(RegionMergeConfig config, int liveServersCount, RegionPair<T> ri) {
+        this(config, liveServersCount);
         first = ri;
         last = ri;
         isEmpty = false;
         if (ri != null) {
             processedCount = 1;
+            if (ri.server != null) {
+                serverRegionsCount.put(ri.server, 1);
+            }
         }
     }
 
     void add(RegionPair<T> ri) {
-        addAll(new RegionPairsCollection<>(config, ri));
+        addAll(new RegionPairsCollection<>(config, liveServersCount, ri));
     }
 
     RegionPairsCollection<T> addAll(RegionPairsCollection<T> other) {
@@ -91,6 +104,7 @@ class RegionPairsCollection<T> {
             processedCount = other.processedCount;
             isEmpty = other.isEmpty;
             pairSortedSet = other.pairSortedSet;
+            serverRegionsCount = other.serverRegionsCount;
             first = other.first;
             last = other.last;
             return this;
@@ -99,6 +113,8 @@ class RegionPairsCollection<T> {
         // pair between our last and next first if both are not null
         if (last != null && other.first != null) {
             last.nextHandle = other.first.handle;
+            last.nextServer = other.first.server;
+            last.nextRequestCount = other.first.requestCount;
             last.mergedSize = last.size + other.first.size;
             if (last.requestCount > config.getMaxRequestCount()) {
                 LOG.debug("Skipping region "+last.handle+" for too high request count:"+last.requestCount);
@@ -114,6 +130,7 @@ class RegionPairsCollection<T> {
         last = other.last;
 
         pairSortedSet.addAll(other.pairSortedSet);
+        other.serverRegionsCount.forEach((server, count) -> serverRegionsCount.merge(server, count, Integer::sum));
 
         processedCount += other.processedCount;
         return this;
@@ -121,14 +138,18 @@ class RegionPairsCollection<T> {
 
 
     Stream<RegionPair<T>> result() {
-        if (processedCount <= config.getMinRegionsCount()) {
+        int minRegionsCount = config.getMinRegionsCount(liveServersCount);
+        if (processedCount <= minRegionsCount) {
             LOG.info("returning empty collection because of not enough inputs");
             return Stream.empty();
         }
-        int maxReturnSize = Integer.min(pairSortedSet.size(), config.getMaxResults());
+        //every merge removes one region, so never plan more merges than the table can afford
+        int maxReturnSize = Integer.min(Integer.min(pairSortedSet.size(), config.getMaxResults()),
+                processedCount - minRegionsCount);
         LOG.info("Returning maximum "+maxReturnSize+" out of "+ pairSortedSet.size()+" results. Final result size may be less because of prohibited neighbours.");
 
         final Set<T> prohibited = new HashSet<>();
+        final Map<String, Integer> remainingPerServer = new HashMap<>(serverRegionsCount);
         //TODO: here there is a very dirty tricks: we change the prohibited set as a side effect
         //can be fixed by using a proper accumulator with permanent collections
         return pairSortedSet.stream()
@@ -137,10 +158,31 @@ class RegionPairsCollection<T> {
                         LOG.debug("Skipping region "+ri.handle+" for being a prohibited neighbour");
                         return false;
                     }
+                    String losingServer = losingServer(ri);
+                    if (config.getMinRegionsPerServer() > 0 && losingServer != null) {
+                        int remaining = remainingPerServer.getOrDefault(losingServer, 0);
+                        if (remaining <= config.getMinRegionsPerServer()) {
+                            LOG.debug("Skipping region "+ri.handle+" for too few regions left on server "+losingServer);
+                            return false;
+                        }
+                        remainingPerServer.put(losingServer, remaining - 1);
+                    }
                     prohibited.add(ri.handle);
                     prohibited.add(ri.nextHandle);
                     return true;
                 })
                 .limit(maxReturnSize);
     }
+
+    /**
+     * The server left with one region less after merging the pair.
+     * When the regions are on different servers, the master moves the region with
+     * fewer requests to the server of the other one before merging.
+     */
+    static String losingServer(RegionPair<?> ri) {
+        if (ri.server == null || ri.nextServer == null || ri.server.equals(ri.nextServer)) {
+            return ri.nextServer != null ? ri.nextServer : ri.server;
+        }
+        return ri.requestCount < ri.nextRequestCount ? ri.server : ri.nextServer;
+    }
 }
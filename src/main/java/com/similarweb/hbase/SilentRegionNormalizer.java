@@ -57,9 +57,17 @@ import org.apache.hadoop.hbase.master.RegionState;
 import org.apache.hadoop.hbase.master.normalizer.MergeNormalizationPlan;
 import org.apache.hadoop.hbase.master.normalizer.NormalizationPlan;
 import org.apache.hadoop.hbase.master.normalizer.RegionNormalizer;
+import org.apache.hadoop.hbase.protobuf.generated.ZooKeeperProtos;
+import org.apache.hadoop.hbase.util.EnvironmentEdgeManager;
 
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Simple implementation of region normalizer.
@@ -93,9 +101,16 @@ public class SilentRegionNormalizer implements RegionNormalizer {
   private static final int DEFAULT_MAX_REQUEST_COUNT = 0;
   public static final String MAX_RESULTS = "similarweb.normalizer.max_results";
   private static final int DEFAULT_MAX_RESULTS = 10;
+  public static final String MIN_REGIONS_PER_SERVER = "similarweb.normalizer.min_regions_per_server";
+  private static final int DEFAULT_MIN_REGIONS_PER_SERVER = 0; //disabled
+  public static final String TARGET_REGION_COUNT = "similarweb.normalizer.target_region_count";
+  private static final int DEFAULT_TARGET_REGION_COUNT = 0; //disabled, every table is planned in isolation
+  private static final String NORMALIZER_PERIOD = "hbase.normalizer.period";
+  private static final long DEFAULT_NORMALIZER_PERIOD = 300000; //5 minutes, as in HMaster
 
   private MasterServices masterServices;
   private RegionMergeConfig mergeConfig;
+  private ClusterPlanRound<TableName, List<NormalizationPlan>> clusterPlanRound;
 
   /**
    * Set the master service.
@@ -112,13 +127,22 @@ public class SilentRegionNormalizer implements RegionNormalizer {
             .withMaxRequestCount(serverConfig.getInt(MAX_REQUEST_COUNT, DEFAULT_MAX_REQUEST_COUNT))
             .withMaxResults(serverConfig.getInt(MAX_RESULTS, DEFAULT_MAX_RESULTS))
             .withMinRegionsCount(serverConfig.getInt(MIN_REGION_COUNT, DEFAULT_MIN_REGION_COUNT))
+            .withMinRegionsPerServer(serverConfig.getInt(MIN_REGIONS_PER_SERVER, DEFAULT_MIN_REGIONS_PER_SERVER))
+            .withTargetRegionCount(serverConfig.getInt(TARGET_REGION_COUNT, DEFAULT_TARGET_REGION_COUNT))
             .build();
 
     LOG.info("Read configuration: [max size:"+mergeConfig.getMaxRegionSize()
             + ", max requests:"+mergeConfig.getMaxRequestCount()
             +", max results:"+mergeConfig.getMaxResults()
             +", min regions:"+mergeConfig.getMinRegionsCount()
+            +", min regions per server:"+mergeConfig.getMinRegionsPerServer()
+            +", target region count:"+mergeConfig.getTargetRegionCount()
             +"]");
+
+    // plans older than half the chore period can't belong to the round the master is running
+    long roundMaxAge = serverConfig.getLong(NORMALIZER_PERIOD, DEFAULT_NORMALIZER_PERIOD) / 2;
+    clusterPlanRound = new ClusterPlanRound<>(this::computeClusterPlans, roundMaxAge,
+            EnvironmentEdgeManager::currentTime);
   }
 
   /**
@@ -149,12 +173,18 @@ public class SilentRegionNormalizer implements RegionNormalizer {
               });
     }
 
-   List<NormalizationPlan> plans =
-            tableRegions.stream()
-                    .map(this::toRegionInfo)
-                    .collect(RegionPairsCollection.createCollector(mergeConfig))
-                    .map(this::toNormalizationPlan)
-                    .collect(java.util.stream.Collectors.toList());
+    List<NormalizationPlan> plans;
+    if (mergeConfig.getTargetRegionCount() > 0) {
+      plans = computeClusterPlanForTable(table);
+    } else {
+      int liveServersCount = masterServices.getServerManager().getOnlineServersList().size();
+      LOG.debug("Live region servers: " + liveServersCount + ", minimum regions for table " + table
+              + ": " + mergeConfig.getMinRegionsCount(liveServersCount));
+
+      plans = collectMergeCandidates(tableRegions, liveServersCount)
+              .map(this::toNormalizationPlan)
+              .collect(Collectors.toList());
+    }
 
     if (plans.isEmpty()) {
       LOG.info("No normalization needed, regions look good for table: " + table);
@@ -165,6 +195,75 @@ public class SilentRegionNormalizer implements RegionNormalizer {
     }
   }
 
+  /**
+   * Cluster mode: merges are planned for all tables at once, once per normalization round,
+   * and the plan of every table is handed out when the master asks for it.
+   * See {@link ClusterPlanRound} for when a new round starts.
+   *
+   * @param table table to normalize
+   * @return merges allocated to the table in the current round
+   */
+  private List<NormalizationPlan> computeClusterPlanForTable(TableName table) throws HBaseIOException {
+    List<NormalizationPlan> plans = clusterPlanRound.take(table);
+    return plans == null ? Collections.emptyList() : plans;
+  }
+
+  private Map<TableName, List<NormalizationPlan>> computeClusterPlans() throws HBaseIOException {
+    // only enabled tables, as the master asks for those only and the regions of the others are offline
+    Set<TableName> enabledTables;
+    try {
+      enabledTables = masterServices.getAssignmentManager().getTableStateManager()
+              .getTablesInStates(ZooKeeperProtos.Table.State.ENABLED);
+    } catch (IOException | CoordinatedStateException e) {
+      throw new HBaseIOException("Failed to list enabled tables for cluster normalization", e);
+    }
+    int liveServersCount = masterServices.getServerManager().getOnlineServersList().size();
+
+    int totalRegionsCount = 0;
+    Map<TableName, List<RegionPair<HRegionInfo>>> candidates = new HashMap<>();
+    for (TableName tableName : enabledTables) {
+      List<HRegionInfo> tableRegions = masterServices.getAssignmentManager().getRegionStates().
+              getRegionsOfTable(tableName);
+      totalRegionsCount += tableRegions.size();
+      if (tableName.isSystemTable() || !isNormalizationEnabled(tableName)) {
+        continue;
+      }
+      candidates.put(tableName, collectMergeCandidates(tableRegions, liveServersCount)
+              .collect(Collectors.toList()));
+    }
+
+    // every merge reclaims one region, so the excess over the target bounds the round
+    int slots = Integer.min(mergeConfig.getMaxResults(), totalRegionsCount - mergeConfig.getTargetRegionCount());
+    LOG.info("Cluster has " + totalRegionsCount + " regions on " + liveServersCount
+            + " servers, target is " + mergeConfig.getTargetRegionCount()
+            + ", allocating " + Integer.max(slots, 0) + " merges across " + candidates.size() + " tables");
+
+    Map<TableName, List<RegionPair<HRegionInfo>>> allocated = ClusterMergeBudget.allocate(candidates, slots);
+    Map<TableName, List<NormalizationPlan>> plans = new HashMap<>();
+    candidates.keySet().forEach(tableName -> plans.put(tableName,
+            allocated.getOrDefault(tableName, Collections.emptyList()).stream()
+                    .map(this::toNormalizationPlan)
+                    .collect(Collectors.toList())));
+    return plans;
+  }
+
+  private boolean isNormalizationEnabled(TableName tableName) throws HBaseIOException {
+    try {
+      HTableDescriptor descriptor = masterServices.getTableDescriptors().get(tableName);
+      // same rule as the master, which asks for tables without a descriptor as well
+      return descriptor == null || descriptor.isNormalizationEnabled();
+    } catch (IOException e) {
+      throw new HBaseIOException("Failed to read descriptor of table " + tableName, e);
+    }
+  }
+
+  private Stream<RegionPair<HRegionInfo>> collectMergeCandidates(List<HRegionInfo> tableRegions,
+                                                                 int liveServersCount) {
+    return tableRegions.stream()
+            .map(this::toRegionInfo)
+            .collect(RegionPairsCollection.createCollector(mergeConfig, liveServersCount));
+  }
+
   private NormalizationPlan toNormalizationPlan(RegionPair<HRegionInfo> ri) {
     return new MergeNormalizationPlan(ri.handle, ri.nextHandle);
   }
@@ -175,7 +274,8 @@ public class SilentRegionNormalizer implements RegionNormalizer {
               getRegionServerOfRegion(hri);
       RegionLoad regionLoad = masterServices.getServerManager().getLoad(sn).
               getRegionsLoad().get(hri.getRegionName());
-      return new RegionPair(hri, regionLoad.getStorefileSizeMB(), regionLoad.getRequestsCount());
+      return new RegionPair(hri, regionLoad.getStorefileSizeMB(), regionLoad.getRequestsCount(),
+              sn.getServerName());
     } catch (Exception e) {
       LOG.error(e);
       return null;
@@ -0,0 +1,83 @@
+/**
+ *    Copyright (c) 2016, SimilarWeb LTD.
+ *    All rights reserved.
+ *
+ *    Redistribution and use in source and binary forms, with or without
+ *    modification, are permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this
+ *       list of conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *
+ *    THIS SOFTWARE IS PROVIDED BY SimilarWeb ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ *    WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ *    MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ *    EVENT SHALL SimilarWeb OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ *    INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ *    LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ *    OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *    LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *    NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ *    EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ *    The views and conclusions contained in the software and documentation are
+ *    those of the authors and should not be interpreted as representing official
+ *    policies, either expressed or implied, of SimilarWeb.
+*/
+
+package com.similarweb.hbase;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ClusterMergeBudgetTest {
+
+    private RegionPair<String> pair(String handle, String nextHandle, int mergedSize, long requestCount) {
+        RegionPair<String> ri = new RegionPair<>(handle, mergedSize / 2, requestCount);
+        ri.nextHandle = nextHandle;
+        ri.mergedSize = mergedSize;
+        return ri;
+    }
+
+    private Map<String, List<RegionPair<String>>> candidates() {
+        Map<String, List<RegionPair<String>>> candidates = new HashMap<>();
+        candidates.put("table1", Arrays.asList(
+                pair("region1", "region2", 10, 0),
+                pair("region3", "region4", 100, 0)));
+        candidates.put("table2", Arrays.asList(
+                pair("region5", "region6", 20, 0),
+                pair("region7", "region8", 10, 50)));
+        return candidates;
+    }
+
+    private String ri2string(RegionPair<String> ri) {
+        return ri.handle + "|" + ri.nextHandle;
+    }
+
+    @Test
+    public void testBestAcrossTables() {
+        Map<String, List<RegionPair<String>>> allocated = ClusterMergeBudget.allocate(candidates(), 2);
+
+        assertThat(allocated.keySet(), containsInAnyOrder("table1", "table2"));
+        assertThat(allocated.get("table1").stream().map(this::ri2string)
+                .collect(java.util.stream.Collectors.toList()), contains("region1|region2"));
+        assertThat(allocated.get("table2").stream().map(this::ri2string)
+                .collect(java.util.stream.Collectors.toList()), contains("region5|region6"));
+    }
+
+    @Test
+    public void testNoSlots() {
+        assertThat(ClusterMergeBudget.allocate(candidates(), 0).entrySet(), empty());
+        assertThat(ClusterMergeBudget.allocate(candidates(), -5).entrySet(), empty());
+    }
+}
@@ -0,0 +1,111 @@
+/**
+ *    Copyright (c) 2016, SimilarWeb LTD.
+ *    All rights reserved.
+ *
+ *    Redistribution and use in source and binary forms, with or without
+ *    modification, are permitted provided that the following conditions are met:
+ *
+ *    1. Redistributions of source code must retain the above copyright notice, this
+ *       list of conditions and the following disclaimer.
+ *
+ *    2. Redistributions in binary form must reproduce the above copyright notice,
+ *       this list of conditions and the following disclaimer in the documentation
+ *       and/or other materials provided with the distribution.
+ *
+ *    THIS SOFTWARE IS PROVIDED BY SimilarWeb ``AS IS'' AND ANY EXPRESS OR IMPLIED
+ *    WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED WARRANTIES OF
+ *    MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE DISCLAIMED. IN NO
+ *    EVENT SHALL SimilarWeb OR CONTRIBUTORS BE LIABLE FOR ANY DIRECT, INDIRECT,
+ *    INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES (INCLUDING, BUT NOT
+ *    LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES; LOSS OF USE, DATA,
+ *    OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND ON ANY THEORY OF
+ *    LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT (INCLUDING
+ *    NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS SOFTWARE,
+ *    EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ *
+ *    The views and conclusions contained in the software and documentation are
+ *    those of the authors and should not be interpreted as representing official
+ *    policies, either expressed or implied, of SimilarWeb.
+*/
+
+package com.similarweb.hbase;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class ClusterPlanRoundTest {
+
+    private int plannedRounds = 0;
+    private long now = 0;
+
+    private Map<String, String> plan() {
+        plannedRounds++;
+        Map<String, String> plans = new HashMap<>();
+        plans.put("table1", "plan1-" + plannedRounds);
+        plans.put("table2", "plan2-" + plannedRounds);
+        return plans;
+    }
+
+    private ClusterPlanRound<String, String> round() {
+        return new ClusterPlanRound<>(this::plan, 100, () -> now);
+    }
+
+    @Test
+    public void testOneRoundForAllTables() throws Exception {
+        ClusterPlanRound<String, String> round = round();
+
+        assertThat(round.take("table1"), is("plan1-1"));
+        assertThat(round.take("table2"), is("plan2-1"));
+        assertThat(plannedRounds, is(1));
+    }
+
+    @Test
+    public void testNewRoundWhenTableAskedAgain() throws Exception {
+        ClusterPlanRound<String, String> round = round();
+
+        assertThat(round.take("table1"), is("plan1-1"));
+        assertThat(round.take("table1"), is("plan1-2"));
+        assertThat(round.take("table2"), is("plan2-2"));
+        assertThat(plannedRounds, is(2));
+    }
+
+    @Test
+    public void testNoRoundWhenUnknownTableAsked() throws Exception {
+        ClusterPlanRound<String, String> round = round();
+
+        assertThat(round.take("table1"), is("plan1-1"));
+        assertThat(round.take("table3"), nullValue());
+        assertThat(round.take("table3"), nullValue());
+        assertThat(round.take("table2"), is("plan2-1"));
+        assertThat(plannedRounds, is(1));
+    }
+
+    @Test
+    public void testUnknownTableAskedFirst() throws Exception {
+        ClusterPlanRound<String, String> round = round();
+
+        assertThat(round.take("table3"), nullValue());
+        assertThat(round.take("table1"), is("plan1-1"));
+        assertThat(plannedRounds, is(1));
+    }
+
+    @Test
+    public void testStalePlansDropped() throws Exception {
+        ClusterPlanRound<String, String> round = round();
+
+        assertThat(round.take("table1"), is("plan1-1"));
+        now = 100;
+        assertThat(round.take("table2"), is("plan2-1"));
+
+        assertThat(round.take("table1"), is("plan1-2"));
+        now = 201;
+        //table2 of the previous round is left over, but too old to be used
+        assertThat(round.take("table2"), is("plan2-3"));
+        assertThat(plannedRounds, is(3));
+    }
+}
@@ -136,4 +136,111 @@ public class RegionPairsCollectionTest {
                 .collect(java.util.stream.Collectors.toList()), contains("region4|region5","region2|region3"));
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testMinRegionsCountCapsMerges() {
+        //6 regions with a floor of 5 leave room for one merge only, even if more pairs are allowed
+        assertThat(Arrays.stream(inputs).parallel()
+                .collect(
+                        RegionPairsCollection.createCollector(RegionMergeConfig.create()
+                                .withMaxRegionSize(100)
+                                .withMaxResults(100)
+                                .withMinRegionsCount(5)
+                                .withMaxRequestCount(100)
+                                .build()
+                        )
+                )
+                .map(this::ri2string)
+                .collect(java.util.stream.Collectors.toList()), contains("region4|region5"));
+    }
+
+    RegionPair<String>[] inputsWithServers = new RegionPair[]{
+            new RegionPair("region1", 1, 0, "server1"),
+            new RegionPair("region2", 2, 0, "server1"),
+            new RegionPair("region3", 4, 0, "server1"),
+            new RegionPair("region4", 8, 0, "server2")
+    };
+
+    @Test
+    public void testMinRegionsPerServer() {
+        //the table floor of 2 regions allows two merges,
+        //but region4 is the only region of server2, so it can't be merged away from there
+        assertThat(Arrays.stream(inputsWithServers).parallel()
+                .collect(
+                        RegionPairsCollection.createCollector(RegionMergeConfig.create()
+                                .withMaxRegionSize(100)
+                                .withMaxResults(100)
+                                .withMinRegionsCount(2)
+                                .withMinRegionsPerServer(1)
+                                .build(), 2
+                        )
+                )
+                .map(this::ri2string)
+                .collect(java.util.stream.Collectors.toList()), contains("region1|region2"));
+
+        assertThat(Arrays.stream(inputsWithServers).parallel()
+                .collect(
+                        RegionPairsCollection.createCollector(RegionMergeConfig.create()
+                                .withMaxRegionSize(100)
+                                .withMaxResults(100)
+                                .withMinRegionsCount(2)
+                                .build(), 2
+                        )
+                )
+                .map(this::ri2string)
+                .collect(java.util.stream.Collectors.toList()), contains("region1|region2", "region3|region4"));
+    }
+
+    @Test
+    public void testMinRegionsPerServerColderFirst() {
+        //region1 has fewer requests than region2, so it is region1 that moves away from server1
+        RegionPair<String>[] colderFirst = new RegionPair[]{
+                new RegionPair("region1", 1, 0, "server1"),
+                new RegionPair("region2", 2, 5, "server2"),
+                new RegionPair("region3", 4, 5, "server2")
+        };
+        assertThat(Arrays.stream(colderFirst).parallel()
+                .collect(
+                        RegionPairsCollection.createCollector(RegionMergeConfig.create()
+                                .withMaxRegionSize(100)
+                                .withMaxResults(100)
+                                .withMinRegionsCount(1)
+                                .withMinRegionsPerServer(1)
+                                .withMaxRequestCount(100)
+                                .build(), 1
+                        )
+                )
+                .map(this::ri2string)
+                .collect(java.util.stream.Collectors.toList()), contains("region2|region3"));
+    }
+
+    @Test
+    public void testMinRegionsByLiveServers() {
+        //6 regions and 5 live servers with a floor of 1 region per server leave room for one merge only
+        assertThat(Arrays.stream(inputs).parallel()
+                .collect(
+                        RegionPairsCollection.createCollector(RegionMergeConfig.create()
+                                .withMaxRegionSize(100)
+                                .withMaxResults(100)
+                                .withMinRegionsCount(1)
+                                .withMinRegionsPerServer(1)
+                                .withMaxRequestCount(100)
+                                .build(), 5
+                        )
+                )
+                .map(this::ri2string)
+                .collect(java.util.stream.Collectors.toList()), contains("region4|region5"));
+
+        assertThat(Arrays.stream(inputs).parallel()
+                .collect(
+                        RegionPairsCollection.createCollector(RegionMergeConfig.create()
+                                .withMaxRegionSize(100)
+                                .withMaxResults(100)
+                                .withMinRegionsCount(1)
+                                .withMinRegionsPerServer(1)
+                                .withMaxRequestCount(100)
+                                .build(), 6
+                        )
+                )
+                .toArray(), emptyArray());
+    }
+}